@@ -1,35 +1,49 @@
 package com.plavajs.libs.simpleinject;
 
 import com.plavajs.libs.simpleinject.annotation.SimpleEagerInstances;
-import com.plavajs.libs.simpleinject.exception.MissingBeanException;
-import com.plavajs.libs.simpleinject.exception.DuplicitBeansException;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 
-import java.util.ArrayList;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
 
 @Log4j2
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public final class ApplicationContext {
 
-    private static final MethodBeanService methodBeanService = new MethodBeanService();
-    private static final ComponentBeanService componentBeanService = new ComponentBeanService();
-    private static final Set<ComponentBean> componentBeans;
-    private static final Set<MethodBean> methodBeans;
+    private static final String DEV_MODE_PROPERTY = "simple-inject.dev-mode";
+    private static final String START_THREAD_NAME = "simple-inject-start";
 
-    static {
-        methodBeans = methodBeanService.getBeans();
-        componentBeans = componentBeanService.getBeans();
+    private static MethodBeanService methodBeanService;
+    private static ComponentBeanService componentBeanService;
+    private static boolean isEagerInstances;
+    private static volatile BeanRegistry registry;
+    private static volatile CompletableFuture<BeanRegistry> registryLoaded;
+    private static volatile SimpleInjectMetrics metrics;
+    private static CompletableFuture<Void> started;
 
-        boolean isEagerInstances = isEagerInstances();
-        if (log.isDebugEnabled()) log.debug("Eager instances: {}", String.valueOf(isEagerInstances).toUpperCase());
-        if (isEagerInstances) {
-            setupInstances();
+    /**
+     * Starts the container on a background thread: scans the class path, loads the beans and creates the eager
+     * instances. The beans can be requested as soon as they are loaded, without waiting for the eager instances.
+     * <p>
+     * Calling it again returns the running or finished start. Only a start failing before the beans are loaded is
+     * retried. Once the beans are loaded the container is never rebuilt -> a later failure (e.g. of an eager instance)
+     * completes the returned future exceptionally, the loaded beans and their instances stay in use.
+     * If it is not called, the first request of a bean starts the container.
+     *
+     * @return future completed when the container is fully started
+     */
+    public static synchronized CompletableFuture<Void> start() {
+        if (started == null || registryLoaded.isCompletedExceptionally()) {
+            CompletableFuture<BeanRegistry> loaded = new CompletableFuture<>();
+            registryLoaded = loaded;
+            started = CompletableFuture.runAsync(() -> boot(loaded), ApplicationContext::runStartThread);
         }
+        return started.copy();
     }
 
     /**
@@ -38,11 +52,7 @@ public final class ApplicationContext {
      * @return instance of the specified type
      */
     public static <T> T getInstance(Class<T> type, String identifier) {
-        Bean bean = validateFindBean(type, identifier);
-        if (bean.getInstance() == null) {
-            return type.cast(BeanService.createInstance(bean, new HashSet<>()));
-        }
-        return type.cast(bean.getInstance());
+        return getRegistry().getInstance(type, identifier);
     }
 
     /**
@@ -53,62 +63,167 @@ public final class ApplicationContext {
         return getInstance(type, "");
     }
 
-    static Bean validateFindBean(Class<?> type, String identifier) {
-        List<Bean> allBeansForType = findAllBeansForType(type);
-        if (allBeansForType.isEmpty()) {
-            throw new MissingBeanException(String.format("No bean registered for type: %s !", type.getName()));
-        }
+    /**
+     * @param type       the type you want to return the handle of
+     * @param identifier the unique identifier of the bean
+     * @return handle returning the instance of the bean without looking the bean up again
+     */
+    public static <T> BeanHandle<T> handle(Class<T> type, String identifier) {
+        return getRegistry().handle(type, identifier);
+    }
+
+    /**
+     * @param type the type you want to return the handle of
+     * @return handle returning the instance of the bean without looking the bean up again
+     */
+    public static <T> BeanHandle<T> handle(Class<T> type) {
+        return handle(type, "");
+    }
 
-        List<Bean> foundBeans = allBeansForType.stream()
-                .filter(bean -> bean instanceof MethodBean)
-                .filter(bean -> bean.getIdentifier().equals(identifier))
-                .toList();
+    /**
+     * Opens a request scope on the current thread. The 'REQUEST' scoped beans requested until the scope is closed
+     * share their instances within the scope. Scopes may be nested, the inner scope must be closed first.
+     *
+     * @return the opened scope to be closed at the end of the request
+     */
+    public static RequestScope openRequestScope() {
+        return BeanScopes.openRequestScope();
+    }
 
-        if (foundBeans.size() > 1) {
-            throw new DuplicitBeansException("This should not happen => bug in method 'ApplicationContext.validateFindBean()' !");
+    /**
+     * Drops the instances of the 'THREAD' scoped beans created on the current thread (e.g. before returning a pooled
+     * thread).
+     */
+    public static void closeThreadScope() {
+        BeanRegistry currentRegistry = registry;
+        if (currentRegistry != null) currentRegistry.closeThreadScope();
+    }
+
+    /**
+     * @param metrics the receiver of the lookup and creation statistics, null to remove it
+     */
+    public static synchronized void setMetrics(SimpleInjectMetrics metrics) {
+        ApplicationContext.metrics = metrics;
+        if (registry != null) registry.getStatistics().setMetrics(metrics);
+    }
+
+    /**
+     * @return the memory footprint currently retained by the container
+     */
+    public static ContainerFootprint getFootprint() {
+        return getRegistry().getFootprint(ClassScanner.getClassCount());
+    }
+
+    /**
+     * Updates the registered beans after classes were added to or removed from the class path and drops the instances
+     * of all beans depending on the changed beans, so they are created again on the next request.
+     *
+     * @param addedClasses   the classes to load new beans from
+     * @param removedClasses the classes whose beans are unregistered
+     */
+    static synchronized void reload(Set<Class<?>> addedClasses, Set<Class<?>> removedClasses) {
+        Set<Bean> changedBeans = new HashSet<>(methodBeanService.removeBeans(removedClasses));
+        changedBeans.addAll(componentBeanService.removeBeans(removedClasses));
+
+        Set<MethodBean> addedMethodBeans = methodBeanService.addBeans(addedClasses);
+        Set<ComponentBean> addedComponentBeans = componentBeanService.addBeans(addedClasses);
+        registry.attach(addedMethodBeans);
+        registry.attach(addedComponentBeans);
+        changedBeans.addAll(addedMethodBeans);
+        changedBeans.addAll(addedComponentBeans);
+        changedBeans.addAll(registry.removeBeansWithMissingRequiredBeans());
+        registry.validateDuplicitBeans();
+        addedMethodBeans.retainAll(registry.getMethodBeans());
+        if (changedBeans.isEmpty()) return;
+
+        Set<Class<?>> changedTypes = changedBeans.stream().map(Bean::getType).collect(Collectors.toSet());
+        registry.invalidateDependentInstances(changedTypes);
+        BeanService.startAsyncInstances(addedMethodBeans);
+        if (isEagerInstances) {
+            registry.setupInstances();
         }
 
-        if (foundBeans.isEmpty()) {
-            foundBeans = allBeansForType.stream()
-                    .filter(bean -> bean instanceof ComponentBean)
-                    .filter(bean -> bean.getIdentifier().equals(identifier))
-                    .toList();
+        if (log.isDebugEnabled()) log.debug("Reloaded beans for types: ['{}']",
+                changedTypes.stream().map(Class::getSimpleName).sorted().collect(Collectors.joining("', '")));
+    }
+
+    private static void boot(CompletableFuture<BeanRegistry> loaded) {
+        long bootStart = System.nanoTime();
+        BeanRegistry loadedRegistry;
+        try {
+            ClassScanner.scan();
+            methodBeanService = new MethodBeanService();
+            componentBeanService = new ComponentBeanService();
+            methodBeanService.loadBeans();
+            componentBeanService.loadBeans();
+            isEagerInstances = isEagerInstances();
+            loadedRegistry = new BeanRegistry(methodBeanService.getBeans(), componentBeanService.getBeans(), Set.of());
+        } catch (RuntimeException | Error e) {
+            loaded.completeExceptionally(e);
+            throw e;
         }
 
-        if (foundBeans.isEmpty()) {
-            String identifierMessage = identifier.isBlank() ? "a blank identifier" : String.format("identifier='%s'", identifier);
-            throw new MissingBeanException(String.format("No bean registered for type: %s and %s !",
-                    type.getName(),
-                    identifierMessage));
+        // published together with the metrics, so metrics set meanwhile are not lost
+        synchronized (ApplicationContext.class) {
+            loadedRegistry.getStatistics().setMetrics(metrics);
+            registry = loadedRegistry;
+        }
+        loaded.complete(loadedRegistry);
+
+        try {
+            BeanService.startAsyncInstances(loadedRegistry.getMethodBeans());
+            if (log.isDebugEnabled()) log.debug("Eager instances: {}", String.valueOf(isEagerInstances).toUpperCase());
+            if (isEagerInstances) {
+                loadedRegistry.setupInstances();
+            }
+        } finally {
+            completeStart(loadedRegistry, bootStart);
         }
+    }
 
-        if (foundBeans.size() > 1) {
-            throw new DuplicitBeansException("This should not happen => bug in method ApplicationContext.validateFindBean() !");
+    /**
+     * Finishes the start of the published registry, also if creating its instances failed (the registry stays in use).
+     */
+    private static void completeStart(BeanRegistry loadedRegistry, long bootStart) {
+        if (Boolean.getBoolean(DEV_MODE_PROPERTY)) {
+            if (log.isDebugEnabled()) log.debug("Development mode: watching class path for changes");
+            ClassPathWatcher.start();
+        } else {
+            componentBeanService.releaseScannedPackages();
+            ClassScanner.release();
         }
 
-        return foundBeans.get(0);
+        ContainerStatistics statistics = loadedRegistry.getStatistics();
+        statistics.setScanNanos(ClassScanner.getScanNanos());
+        statistics.setBootNanos(System.nanoTime() - bootStart);
+        statistics.register();
+        if (log.isDebugEnabled()) log.debug("Started in {} ms", statistics.getBootMillis());
+    }
+
+    /**
+     * @return the loaded registry, waits until the beans are loaded (starts the container if it is not started yet)
+     */
+    private static BeanRegistry getRegistry() {
+        BeanRegistry currentRegistry = registry;
+        if (currentRegistry != null) return currentRegistry;
+
+        start();
+        try {
+            return registryLoaded.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            if (e.getCause() instanceof Error cause) throw cause;
+            throw e;
+        }
     }
 
-    private static List<Bean> findAllBeansForType(Class<?> type) {
-        List<Bean> foundBeans = new ArrayList<>(methodBeans);
-        foundBeans.addAll(componentBeans);
-        return foundBeans.stream()
-                .filter(bean -> bean.getType().equals(type))
-                .toList();
+    private static void runStartThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, START_THREAD_NAME);
+        thread.setDaemon(true);
+        thread.start();
     }
 
     private static boolean isEagerInstances() {
         return !ClassScanner.findClassesAnnotatedWith(SimpleEagerInstances.class).isEmpty();
     }
-
-    private static void setupInstances() {
-        if (log.isDebugEnabled()) log.debug("Setting up instances for all beans");
-        methodBeans.forEach(bean -> {
-            if (bean.getInstance() == null) bean.setInstance(MethodBeanService.createInstance(bean, new HashSet<>()));
-        });
-        componentBeans.forEach(bean -> {
-            if (bean.getInstance() == null) bean.setInstance(ComponentBeanService.createInstance(bean, new HashSet<>()));
-        });
-        if (log.isDebugEnabled()) log.debug("All beans instantiated");
-    }
 }
@@ -1,23 +1,57 @@
 package com.plavajs.libs.simpleinject;
 
+import com.plavajs.libs.simpleinject.annotation.SimpleScope;
+import com.plavajs.libs.simpleinject.annotation.SimpleScopeType;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.util.concurrent.atomic.AtomicReference;
+
 @Getter
 abstract class Bean {
 
     private final Class<?> type;
 
     @Setter
-    private Object instance;
+    private volatile Object instance;
 
     @Setter
     private String identifier;
 
+    private SimpleScopeType scope = SimpleScopeType.SINGLETON;
+
+    private int scopeSlot = -1;
+
+    @Setter
+    private Object scopedProxy;
+
+    @Setter
+    private BeanRegistry registry;
+
+    private final AtomicReference<SingletonCreation> creation = new AtomicReference<>();
+
     public Bean(Class<?> type) {
         this.type = type;
     }
 
+    void setScope(SimpleScope annotation) {
+        if (annotation == null || annotation.value() == SimpleScopeType.SINGLETON) return;
+
+        scope = annotation.value();
+    }
+
+    /**
+     * @param scopeSlot the index of the instance of the scoped bean in the scope arrays of its registry
+     */
+    void setScopeSlot(int scopeSlot) {
+        this.scopeSlot = scopeSlot;
+    }
+
+    /**
+     * @return the class the bean is declared in
+     */
+    abstract Class<?> getDeclaringClass();
+
     @Override
     public boolean equals(Object o) {
         if (o == this) {
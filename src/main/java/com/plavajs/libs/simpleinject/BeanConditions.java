@@ -0,0 +1,95 @@
+package com.plavajs.libs.simpleinject;
+
+import com.plavajs.libs.simpleinject.annotation.SimpleConditionalOnBean;
+import com.plavajs.libs.simpleinject.annotation.SimpleConditionalOnClass;
+import com.plavajs.libs.simpleinject.annotation.SimpleConditionalOnProperty;
+import com.plavajs.libs.simpleinject.annotation.SimpleProfile;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+
+import java.lang.reflect.AnnotatedElement;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiPredicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Log4j2
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class BeanConditions {
+
+    private static final String PROFILES_PROPERTY = "simple-inject.profiles";
+    private static final String PROFILE_NEGATION = "!";
+
+    /**
+     * Evaluates the profile, property and class conditions, which do not depend on other beans.
+     *
+     * @param element the class or the 'SimpleBean' method
+     * @return true if the element should be loaded as a bean
+     */
+    static boolean matches(AnnotatedElement element) {
+        boolean matches = matchesProfile(element.getAnnotation(SimpleProfile.class))
+                && matchesProperty(element.getAnnotation(SimpleConditionalOnProperty.class))
+                && matchesClasses(element.getAnnotation(SimpleConditionalOnClass.class));
+
+        if (!matches && log.isDebugEnabled()) log.debug("Conditions not met -> skipped: {}", element);
+        return matches;
+    }
+
+    /**
+     * @param bean             the bean to evaluate
+     * @param isBeanRegistered tests if a bean with the type and identifier is registered
+     * @return true if all the beans required by the bean are registered
+     */
+    static boolean matchesRequiredBeans(Bean bean, BiPredicate<Class<?>, String> isBeanRegistered) {
+        Stream<SimpleConditionalOnBean> conditions = Stream.of(bean.getDeclaringClass().getAnnotation(SimpleConditionalOnBean.class));
+        if (bean instanceof MethodBean methodBean) {
+            conditions = Stream.concat(conditions, Stream.of(methodBean.getMethod().getAnnotation(SimpleConditionalOnBean.class)));
+        }
+
+        boolean matches = conditions
+                .filter(Objects::nonNull)
+                .allMatch(condition -> isBeanRegistered.test(condition.value(), condition.identifier()));
+
+        if (!matches && log.isDebugEnabled()) log.debug("Required bean missing -> skipped bean for type: {}", bean.getType().getName());
+        return matches;
+    }
+
+    private static boolean matchesProfile(SimpleProfile condition) {
+        if (condition == null) return true;
+
+        Set<String> activeProfiles = Arrays.stream(System.getProperty(PROFILES_PROPERTY, "").split(","))
+                .map(String::trim)
+                .filter(profile -> !profile.isBlank())
+                .collect(Collectors.toSet());
+
+        return Arrays.stream(condition.value())
+                .anyMatch(profile -> profile.startsWith(PROFILE_NEGATION) ?
+                        !activeProfiles.contains(profile.substring(PROFILE_NEGATION.length())) :
+                        activeProfiles.contains(profile));
+    }
+
+    private static boolean matchesProperty(SimpleConditionalOnProperty condition) {
+        if (condition == null) return true;
+
+        String value = System.getProperty(condition.name());
+        if (value == null) return false;
+        return condition.havingValue().isBlank() || condition.havingValue().equals(value);
+    }
+
+    private static boolean matchesClasses(SimpleConditionalOnClass condition) {
+        if (condition == null) return true;
+
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        return Arrays.stream(condition.value()).allMatch(className -> {
+            try {
+                Class.forName(className, false, classLoader);
+                return true;
+            } catch (ClassNotFoundException | LinkageError e) {
+                return false;
+            }
+        });
+    }
+}
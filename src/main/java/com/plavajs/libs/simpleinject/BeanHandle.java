@@ -0,0 +1,49 @@
+package com.plavajs.libs.simpleinject;
+
+import com.plavajs.libs.simpleinject.annotation.SimpleScopeType;
+
+import java.util.HashSet;
+
+/**
+ * Bean resolved once by {@link ApplicationContext#handle(Class, String)}. Getting the instance skips the bean lookup,
+ * the instance is created only on the first call (per scope for the scoped beans).
+ * <pre>{@code
+ * private static final BeanHandle<MyClass> MY_CLASS = ApplicationContext.handle(MyClass.class);
+ * }</pre>
+ *
+ * @param <T> the type of the bean
+ */
+public final class BeanHandle<T> {
+
+    private final Class<T> type;
+    private final Bean bean;
+    private final boolean singleton;
+    private final ContainerStatistics statistics;
+
+    BeanHandle(Class<T> type, Bean bean, ContainerStatistics statistics) {
+        this.type = type;
+        this.bean = bean;
+        this.singleton = bean.getScope() == SimpleScopeType.SINGLETON;
+        this.statistics = statistics;
+    }
+
+    /**
+     * @return instance of the bean
+     */
+    public T get() {
+        Object instance = singleton ? bean.getInstance() : BeanScopes.getScopeInstances(bean)[bean.getScopeSlot()];
+        statistics.recordLookup(bean, instance != null);
+        if (instance == null) {
+            instance = BeanService.getOrCreateInstance(bean, new HashSet<>());
+        }
+        return type.cast(instance);
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    public String getIdentifier() {
+        return bean.getIdentifier();
+    }
+}
@@ -0,0 +1,231 @@
+package com.plavajs.libs.simpleinject;
+
+import com.plavajs.libs.simpleinject.annotation.SimpleScopeType;
+import com.plavajs.libs.simpleinject.exception.DuplicitBeansException;
+import com.plavajs.libs.simpleinject.exception.MissingBeanException;
+import lombok.Getter;
+import lombok.extern.log4j.Log4j2;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Registered beans of one container and the rules to find them. Shared by the scanned {@link ApplicationContext} and
+ * the programmatically built {@link SimpleContext}.
+ */
+@Log4j2
+@Getter
+final class BeanRegistry {
+
+    private final Set<MethodBean> methodBeans;
+    private final Set<ComponentBean> componentBeans;
+    private final Set<SupplierBean> supplierBeans;
+    private final ContainerStatistics statistics = new ContainerStatistics(this::countLiveSingletons);
+    private final AtomicInteger scopeSlotCounter = new AtomicInteger();
+    private final ThreadLocal<Object[]> threadScopeInstances = new ThreadLocal<>();
+
+    BeanRegistry(Set<MethodBean> methodBeans, Set<ComponentBean> componentBeans, Set<SupplierBean> supplierBeans) {
+        this.methodBeans = methodBeans;
+        this.componentBeans = componentBeans;
+        this.supplierBeans = supplierBeans;
+        attach(findAllBeans());
+        removeBeansWithMissingRequiredBeans();
+        validateDuplicitBeans();
+    }
+
+    /**
+     * @param beans the beans registered in this registry to be created within it, the scoped beans get the next slots
+     */
+    void attach(Collection<? extends Bean> beans) {
+        beans.forEach(bean -> {
+            bean.setRegistry(this);
+            if (bean.getScope() != SimpleScopeType.SINGLETON) bean.setScopeSlot(scopeSlotCounter.getAndIncrement());
+        });
+    }
+
+    /**
+     * @return the length of the fully grown scope arrays of this registry
+     */
+    int getScopeSlotCount() {
+        return scopeSlotCounter.get();
+    }
+
+    /**
+     * Drops the instances of the 'THREAD' scoped beans of this registry created on the current thread.
+     */
+    void closeThreadScope() {
+        threadScopeInstances.remove();
+    }
+
+    <T> T getInstance(Class<T> type, String identifier) {
+        Bean bean = validateFindBean(type, identifier);
+        Object instance = BeanService.findInstance(bean);
+        statistics.recordLookup(bean, instance != null);
+        return type.cast(instance != null ? instance : BeanService.getOrCreateInstance(bean, new HashSet<>()));
+    }
+
+    <T> BeanHandle<T> handle(Class<T> type, String identifier) {
+        return new BeanHandle<>(type, validateFindBean(type, identifier), statistics);
+    }
+
+    ContainerFootprint getFootprint(int scannedClasses) {
+        List<Bean> beans = findAllBeans();
+        int pendingInstances = (int) methodBeans.stream().filter(bean -> bean.getPendingInstance().get() != null).count();
+        int scopedProxies = (int) beans.stream().filter(bean -> bean.getScopedProxy() != null).count();
+        return new ContainerFootprint(beans.size(),
+                countLiveSingletons(),
+                pendingInstances,
+                scopedProxies,
+                getScopeSlotCount(),
+                scannedClasses);
+    }
+
+    Bean validateFindBean(Class<?> type, String identifier) {
+        List<Bean> allBeansForType = findAllBeansForType(type);
+        if (allBeansForType.isEmpty()) {
+            throw new MissingBeanException(String.format("No bean registered for type: %s !", type.getName()));
+        }
+
+        List<Bean> foundBeans = allBeansForType.stream()
+                .filter(bean -> !(bean instanceof ComponentBean))
+                .filter(bean -> bean.getIdentifier().equals(identifier))
+                .toList();
+
+        if (foundBeans.size() > 1) {
+            throw new DuplicitBeansException("This should not happen => bug in method 'BeanRegistry.validateFindBean()' !");
+        }
+
+        if (foundBeans.isEmpty()) {
+            foundBeans = allBeansForType.stream()
+                    .filter(bean -> bean instanceof ComponentBean)
+                    .filter(bean -> bean.getIdentifier().equals(identifier))
+                    .toList();
+        }
+
+        if (foundBeans.isEmpty()) {
+            String identifierMessage = identifier.isBlank() ? "a blank identifier" : String.format("identifier='%s'", identifier);
+            throw new MissingBeanException(String.format("No bean registered for type: %s and %s !",
+                    type.getName(),
+                    identifierMessage));
+        }
+
+        if (foundBeans.size() > 1) {
+            throw new DuplicitBeansException("This should not happen => bug in method BeanRegistry.validateFindBean() !");
+        }
+
+        return foundBeans.get(0);
+    }
+
+    List<Bean> findAllBeans() {
+        List<Bean> foundBeans = new ArrayList<>(methodBeans);
+        foundBeans.addAll(supplierBeans);
+        foundBeans.addAll(componentBeans);
+        return foundBeans;
+    }
+
+    /**
+     * Unregisters the beans whose 'SimpleConditionalOnBean' conditions are not met, repeatedly, as removing a bean may
+     * break the conditions of other beans.
+     *
+     * @return the unregistered beans
+     */
+    Set<Bean> removeBeansWithMissingRequiredBeans() {
+        Set<Bean> removedBeans = new HashSet<>();
+        boolean removed = true;
+        while (removed) {
+            Set<Bean> unsatisfiedBeans = findAllBeans().stream()
+                    .filter(bean -> !(bean instanceof SupplierBean))
+                    .filter(bean -> !BeanConditions.matchesRequiredBeans(bean, this::isBeanRegistered))
+                    .collect(Collectors.toSet());
+
+            methodBeans.removeAll(unsatisfiedBeans);
+            componentBeans.removeAll(unsatisfiedBeans);
+            removedBeans.addAll(unsatisfiedBeans);
+            removed = !unsatisfiedBeans.isEmpty();
+        }
+        return removedBeans;
+    }
+
+    /**
+     * Drops the instances of all beans depending (also transitively) on the changed types.
+     *
+     * @param changedTypes the types of the added or removed beans
+     */
+    void invalidateDependentInstances(Set<Class<?>> changedTypes) {
+        Set<Class<?>> invalidatedTypes = new HashSet<>(changedTypes);
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (Bean bean : findAllBeans()) {
+                if (bean.getInstance() == null || Collections.disjoint(BeanService.getDependencyTypes(bean), invalidatedTypes)) continue;
+
+                bean.setInstance(null);
+                invalidatedTypes.add(bean.getType());
+                changed = true;
+                if (log.isDebugEnabled()) log.debug("Instance invalidated for type: {}", bean.getType().getName());
+            }
+        }
+    }
+
+    void setupInstances() {
+        if (log.isDebugEnabled()) log.debug("Setting up instances for all beans");
+        findAllBeans().stream()
+                .filter(bean -> bean.getScope() == SimpleScopeType.SINGLETON)
+                .forEach(bean -> BeanService.getOrCreateInstance(bean, new HashSet<>()));
+        if (log.isDebugEnabled()) log.debug("All beans instantiated");
+    }
+
+    private List<Bean> findAllBeansForType(Class<?> type) {
+        return findAllBeans().stream()
+                .filter(bean -> bean.getType().equals(type))
+                .toList();
+    }
+
+    private boolean isBeanRegistered(Class<?> type, String identifier) {
+        return findAllBeansForType(type).stream().anyMatch(bean -> bean.getIdentifier().equals(identifier));
+    }
+
+    private int countLiveSingletons() {
+        return (int) findAllBeans().stream().filter(bean -> bean.getInstance() != null).count();
+    }
+
+    /**
+     * Validates the beans left after the 'SimpleConditionalOnBean' conditions are evaluated, so alternative beans
+     * excluded by their conditions may share the type and the identifier.
+     */
+    void validateDuplicitBeans() {
+        List<Bean> factoryBeans = new ArrayList<>(methodBeans);
+        factoryBeans.addAll(supplierBeans);
+        validateDuplicitBeans(factoryBeans);
+        validateDuplicitBeans(new ArrayList<>(componentBeans));
+    }
+
+    private static String describeDeclaration(Bean bean) {
+        if (bean instanceof MethodBean methodBean) {
+            return String.format("method: '%s()' in: %s", methodBean.getMethod().getName(), bean.getDeclaringClass().getName());
+        }
+        return String.format("declared in: %s", bean.getDeclaringClass().getName());
+    }
+
+    private static void validateDuplicitBeans(List<Bean> beans) {
+        for (int i = 0; i < beans.size(); i++) {
+            for (int j = i + 1; j < beans.size(); j++) {
+                if (!beans.get(i).equals(beans.get(j))) continue;
+
+                Bean bean = beans.get(i);
+                String identifierMessage = bean.getIdentifier().isBlank() ? "with empty identifiers"
+                        : String.format("with identical identifiers (identifier='%s')", bean.getIdentifier());
+
+                String message = String.format("Duplicit beans %s. For type: %s, %s and %s",
+                        identifierMessage,
+                        bean.getType().getName(),
+                        describeDeclaration(bean),
+                        describeDeclaration(beans.get(j)));
+
+                log.error("Duplicit beans found! {}", message);
+                throw new DuplicitBeansException(message);
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.plavajs.libs.simpleinject;
+
+import com.plavajs.libs.simpleinject.annotation.SimpleScopeType;
+import com.plavajs.libs.simpleinject.exception.ScopeNotActiveException;
+import com.plavajs.libs.simpleinject.exception.UnsupportedScopeException;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.HashSet;
+
+/**
+ * Holds the instances of the 'THREAD' and 'REQUEST' scoped beans. Every scoped bean owns a slot of its registry, so an
+ * instance is looked up by an index into the array of the current scope kept for the registry.
+ */
+@Log4j2
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class BeanScopes {
+
+    private static final ThreadLocal<RequestScope> currentRequestScope = new ThreadLocal<>();
+
+    static RequestScope openRequestScope() {
+        RequestScope scope = new RequestScope(currentRequestScope.get());
+        currentRequestScope.set(scope);
+        return scope;
+    }
+
+    static void closeRequestScope(RequestScope scope) {
+        if (currentRequestScope.get() != scope) {
+            String message = "Request scope must be closed by its thread in the reverse order of opening!";
+            log.error(message);
+            throw new IllegalStateException(message);
+        }
+
+        if (scope.getParent() == null) {
+            currentRequestScope.remove();
+        } else {
+            currentRequestScope.set(scope.getParent());
+        }
+    }
+
+    /**
+     * @param bean the 'THREAD' or 'REQUEST' scoped bean
+     * @return the instances of the current scope of the bean, large enough to hold the slot of the bean
+     */
+    static Object[] getScopeInstances(Bean bean) {
+        int requiredLength = bean.getScopeSlot() + 1;
+        if (bean.getScope() == SimpleScopeType.REQUEST) {
+            RequestScope scope = currentRequestScope.get();
+            if (scope == null) {
+                String message = String.format("No request scope open on the current thread for 'REQUEST' scoped bean of type: %s !",
+                        bean.getType().getName());
+                log.error(message);
+                throw new ScopeNotActiveException(message);
+            }
+
+            return scope.getInstances(bean.getRegistry(), requiredLength);
+        }
+
+        ThreadLocal<Object[]> threadScopeInstances = bean.getRegistry().getThreadScopeInstances();
+        Object[] instances = threadScopeInstances.get();
+        if (instances == null || instances.length < requiredLength) {
+            int slotCount = bean.getRegistry().getScopeSlotCount();
+            instances = instances == null ? new Object[slotCount] : Arrays.copyOf(instances, slotCount);
+            threadScopeInstances.set(instances);
+        }
+        return instances;
+    }
+
+    /**
+     * @param ownerScope the scope of the bean being injected
+     * @param scope      the scope of the injected bean
+     * @return true if the injected bean may be shorter-lived than the bean it is injected into
+     */
+    static boolean requiresProxy(SimpleScopeType ownerScope, SimpleScopeType scope) {
+        if (scope == ownerScope || scope == SimpleScopeType.SINGLETON) return false;
+        return ownerScope == SimpleScopeType.SINGLETON || scope == SimpleScopeType.REQUEST;
+    }
+
+    /**
+     * @param bean the scoped bean
+     * @return proxy resolving the instance of the current scope on every call
+     */
+    static Object getScopedProxy(Bean bean) {
+        Object proxy = bean.getScopedProxy();
+        if (proxy != null) return proxy;
+
+        Class<?> type = bean.getType();
+        if (!type.isInterface()) {
+            String message = String.format("'%s' scoped bean injected into a longer-lived bean must be declared by an interface type! [%s]",
+                    bean.getScope(),
+                    type.getName());
+            log.error(message);
+            throw new UnsupportedScopeException(message);
+        }
+
+        proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (target, method, arguments) -> {
+            Object instance = BeanService.findInstance(bean);
+            if (instance == null) instance = BeanService.getOrCreateInstance(bean, new HashSet<>());
+            try {
+                return method.invoke(instance, arguments);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        });
+        bean.setScopedProxy(proxy);
+        return proxy;
+    }
+}
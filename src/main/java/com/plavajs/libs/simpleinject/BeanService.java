@@ -2,6 +2,8 @@ package com.plavajs.libs.simpleinject;
 
 import com.plavajs.libs.simpleinject.annotation.SimpleBeanIdentifier;
 import com.plavajs.libs.simpleinject.annotation.SimpleInject;
+import com.plavajs.libs.simpleinject.annotation.SimpleScopeType;
+import com.plavajs.libs.simpleinject.exception.AsyncBeanInstantiationException;
 import com.plavajs.libs.simpleinject.exception.CyclicDependencyException;
 import com.plavajs.libs.simpleinject.exception.MissingBeanException;
 import com.plavajs.libs.simpleinject.exception.UnsupportedElementTypeException;
@@ -10,38 +12,108 @@ import lombok.extern.log4j.Log4j2;
 
 import java.lang.reflect.*;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
 
 @Log4j2
 @Getter
 abstract class BeanService<T extends Bean> {
 
-    Set<T> beans = new HashSet<>();
+    private static final String ASYNC_TIMEOUT_PROPERTY = "simple-inject.async-timeout";
+    private static final long DEFAULT_ASYNC_TIMEOUT_MILLIS = 60_000;
+    private static final Map<Thread, SingletonCreation> awaitedCreations = new ConcurrentHashMap<>();
 
-    BeanService() {
-        loadBeans();
-    }
+    Set<T> beans = ConcurrentHashMap.newKeySet();
 
+    /**
+     * Loads the beans from the scanned classes.
+     */
     abstract void loadBeans();
 
+    /**
+     * @param classes the classes to load the beans from
+     * @return the newly registered beans
+     */
+    abstract Set<T> addBeans(Set<Class<?>> classes);
+
+    /**
+     * @param classes the classes the beans were loaded from
+     * @return the unregistered beans
+     */
+    Set<T> removeBeans(Set<Class<?>> classes) {
+        Set<T> removedBeans = beans.stream()
+                .filter(bean -> classes.contains(bean.getDeclaringClass()))
+                .collect(Collectors.toSet());
+
+        beans.removeAll(removedBeans);
+        return removedBeans;
+    }
+
+    /**
+     * @param bean the bean to inspect
+     * @return the types of all beans the instance of the bean is injected with
+     */
+    static Set<Class<?>> getDependencyTypes(Bean bean) {
+        Set<Class<?>> dependencyTypes = new HashSet<>();
+        if (bean instanceof MethodBean methodBean) {
+            Arrays.stream(methodBean.getMethod().getParameterTypes()).forEach(dependencyTypes::add);
+        } else if (bean instanceof ComponentBean) {
+            Arrays.stream(bean.getType().getDeclaredConstructors())
+                    .flatMap(constructor -> Arrays.stream(constructor.getParameterTypes()))
+                    .forEach(dependencyTypes::add);
+        }
+
+        Arrays.stream(bean.getType().getDeclaredFields())
+                .filter(field -> field.isAnnotationPresent(SimpleInject.class))
+                .map(Field::getType)
+                .forEach(dependencyTypes::add);
+        return dependencyTypes;
+    }
+
+    /**
+     * @param bean the bean to find the instance of
+     * @return the existing instance (of the current scope for the scoped beans) or null
+     */
+    static Object findInstance(Bean bean) {
+        if (bean.getScope() == SimpleScopeType.SINGLETON) return bean.getInstance();
+        return BeanScopes.getScopeInstances(bean)[bean.getScopeSlot()];
+    }
+
+    static Object getOrCreateInstance(Bean bean, Set<Class<?>> cache) {
+        Object instance = findInstance(bean);
+        if (instance != null) return instance;
+
+        if (bean.getScope() != SimpleScopeType.SINGLETON) {
+            instance = createInstance(bean, cache);
+            BeanScopes.getScopeInstances(bean)[bean.getScopeSlot()] = instance;
+            return instance;
+        }
+
+        // singletons may be requested while the container creates the eager instances on its start thread -> one thread
+        // creates the instance, the others wait for it without holding any lock (and retry the creation if it fails)
+        while (true) {
+            SingletonCreation creation = new SingletonCreation();
+            SingletonCreation runningCreation = bean.getCreation().compareAndExchange(null, creation);
+            if (runningCreation == null) return createSingletonInstance(bean, creation, cache);
+
+            instance = awaitSingletonInstance(bean, runningCreation);
+            if (instance != null) return instance;
+        }
+    }
+
     static Object createInstance(Bean bean, Set<Class<?>> cache) {
+        long start = System.nanoTime();
         Class<?> type = bean.getType();
         validateCacheDependency(type, cache);
         Object instance;
         if (bean instanceof MethodBean methodBean) {
-            Method method = methodBean.getMethod();
-            Parameter[] parameters = method.getParameters();
-            Object[] parameterInstances = validateCollectParametersInstances(parameters, new HashSet<>(cache));
-
-            try {
-                instance = method.invoke(null, parameterInstances);
-            } catch (IllegalAccessException | InvocationTargetException e) {
-                log.error(e.getMessage());
-                throw new RuntimeException(e);
-            }
+            instance = methodBean.isAsync() ? awaitAsyncInstance(methodBean, cache) : invokeBeanMethod(methodBean, cache);
+        } else if (bean instanceof SupplierBean supplierBean) {
+            instance = supplierBean.getSupplier().get();
         } else {
             Constructor<?> constructor = ComponentBeanService.validateGetComponentBeanConstructor(type);
             Parameter[] parameters = constructor.getParameters();
-            Object[] parameterInstances = validateCollectParametersInstances(parameters, new HashSet<>(cache));
+            Object[] parameterInstances = validateCollectParametersInstances(parameters, bean, new HashSet<>(cache));
 
             try {
                 instance = constructor.newInstance(parameterInstances);
@@ -51,32 +123,226 @@ abstract class BeanService<T extends Bean> {
             }
         }
 
-        injectAnnotatedFields(instance, type, new HashSet<>(cache));
+        injectAnnotatedFields(instance, bean, new HashSet<>(cache));
+        bean.getRegistry().getStatistics().recordCreation(bean, System.nanoTime() - start);
         return instance;
     }
 
-    private static Object[] validateCollectParametersInstances(Parameter[] parameters, Set<Class<?>> cache) {
+    /**
+     * Invokes the factory methods of all asynchronous beans which are not started yet, so their futures run concurrently.
+     * Beans started by other threads meanwhile are skipped without waiting for them.
+     *
+     * @param beans the beans to start, non-asynchronous beans are skipped
+     */
+    static void startAsyncInstances(Collection<MethodBean> beans) {
+        beans.stream()
+                .filter(MethodBean::isAsync)
+                .filter(bean -> bean.getInstance() == null)
+                .forEach(bean -> {
+                    Set<Class<?>> cache = new HashSet<>();
+                    validateCacheDependency(bean.getType(), cache);
+                    startAsyncInstance(bean, cache);
+                });
+    }
+
+    private static Object createSingletonInstance(Bean bean, SingletonCreation creation, Set<Class<?>> cache) {
+        try {
+            Object instance = bean.getInstance();
+            if (instance == null) {
+                instance = createInstance(bean, cache);
+                bean.setInstance(instance);
+                if (bean instanceof MethodBean methodBean) methodBean.getPendingInstance().set(null);
+            }
+            creation.getInstance().complete(instance);
+            return instance;
+        } catch (RuntimeException | Error e) {
+            creation.getInstance().completeExceptionally(e);
+            throw e;
+        } finally {
+            bean.getCreation().set(null);
+        }
+    }
+
+    /**
+     * @param creation the creation running on another thread
+     * @return the created instance or null if the creation failed
+     */
+    private static Object awaitSingletonInstance(Bean bean, SingletonCreation creation) {
+        Thread thread = Thread.currentThread();
+        awaitedCreations.put(thread, creation);
+        try {
+            validateCreationDependency(bean, creation, thread);
+            return creation.getInstance().join();
+        } catch (CompletionException e) {
+            return null;
+        } finally {
+            awaitedCreations.remove(thread);
+        }
+    }
+
+    /**
+     * Follows the creations awaited by the owners of the creations. If it leads back to the current thread -> the beans
+     * depend on each other (also if their creations were started by different threads).
+     */
+    private static void validateCreationDependency(Bean bean, SingletonCreation creation, Thread thread) {
+        Set<Thread> visitedOwners = new HashSet<>();
+        SingletonCreation awaitedCreation = creation;
+        while (awaitedCreation != null && visitedOwners.add(awaitedCreation.getOwner())) {
+            SingletonCreation nextCreation = awaitedCreations.get(awaitedCreation.getOwner());
+            if (awaitedCreation.getInstance().isDone()) return;
+
+            if (awaitedCreation.getOwner() == thread) {
+                String message = String.format("Cyclic dependency: %s !", bean.getType().getName());
+                log.error(message);
+                throw new CyclicDependencyException(message);
+            }
+            awaitedCreation = nextCreation;
+        }
+    }
+
+    /**
+     * Invokes the factory method unless it was invoked for the current instance already (also by another thread).
+     *
+     * @return the pending instance completing with the instance of the bean or failing after the asynchronous timeout
+     */
+    private static CompletableFuture<Object> startAsyncInstance(MethodBean bean, Set<Class<?>> cache) {
+        CompletableFuture<Object> pendingInstance = new CompletableFuture<>();
+        CompletableFuture<Object> startedInstance = bean.getPendingInstance().compareAndExchange(null, pendingInstance);
+        if (startedInstance != null) return startedInstance;
+
+        Object instance = bean.getInstance();
+        if (instance != null) {
+            bean.getPendingInstance().compareAndSet(pendingInstance, null);
+            pendingInstance.complete(instance);
+            return pendingInstance;
+        }
+
+        // a failed (also timed out) instance is dropped -> the waiting threads receive the failure, the next request
+        // invokes the factory method again
+        pendingInstance.orTimeout(getAsyncTimeoutMillis(), TimeUnit.MILLISECONDS);
+        pendingInstance.whenComplete((result, e) -> {
+            if (e != null) bean.getPendingInstance().compareAndSet(pendingInstance, null);
+        });
+
+        CompletableFuture<?> future;
+        try {
+            CompletableFuture<?>[] pendingParameters = startAsyncParameters(bean, cache);
+            future = pendingParameters.length == 0 ? invokeAsyncBeanMethod(bean, cache)
+                    : CompletableFuture.allOf(pendingParameters).thenCompose(parameters -> invokeAsyncBeanMethod(bean, cache));
+        } catch (RuntimeException | Error e) {
+            pendingInstance.completeExceptionally(e);
+            throw e;
+        }
+
+        future.whenComplete((result, e) -> {
+            if (e == null) pendingInstance.complete(result);
+            else pendingInstance.completeExceptionally(e);
+        });
+        return pendingInstance;
+    }
+
+    /**
+     * Starts the asynchronous beans the factory method is injected with, so the factory method is invoked once they
+     * complete instead of blocking the thread starting the other asynchronous beans.
+     *
+     * @return the pending instances of the asynchronous parameters which are not created yet
+     */
+    private static CompletableFuture<?>[] startAsyncParameters(MethodBean bean, Set<Class<?>> cache) {
+        return Arrays.stream(bean.getMethod().getParameters())
+                .map(parameter -> bean.getRegistry().validateFindBean(parameter.getType(), getElementIdentifier(parameter)))
+                .filter(parameterBean -> parameterBean instanceof MethodBean methodBean && methodBean.isAsync())
+                .filter(parameterBean -> parameterBean.getInstance() == null)
+                .map(parameterBean -> {
+                    Set<Class<?>> parameterCache = new HashSet<>(cache);
+                    validateCacheDependency(parameterBean.getType(), parameterCache);
+                    return startAsyncInstance((MethodBean) parameterBean, parameterCache);
+                })
+                .toArray(CompletableFuture<?>[]::new);
+    }
+
+    private static CompletableFuture<?> invokeAsyncBeanMethod(MethodBean bean, Set<Class<?>> cache) {
+        Object future = invokeBeanMethod(bean, cache);
+        if (future == null) {
+            String message = String.format("'SimpleBean' method returned null instead of a future! ['%s()' in: %s]",
+                    bean.getMethod().getName(),
+                    bean.getMethod().getDeclaringClass().getName());
+            log.error(message);
+            throw new AsyncBeanInstantiationException(message);
+        }
+
+        if (log.isDebugEnabled()) log.debug("Started asynchronous 'SimpleBean': {} '{}()'", bean.getType().getSimpleName(), bean.getMethod().getName());
+        return (CompletableFuture<?>) future;
+    }
+
+    private static Object awaitAsyncInstance(MethodBean bean, Set<Class<?>> cache) {
+        CompletableFuture<Object> pendingInstance = startAsyncInstance(bean, cache);
+        String beanDescription = String.format("type: %s, method: '%s()' in: %s",
+                bean.getType().getName(),
+                bean.getMethod().getName(),
+                bean.getMethod().getDeclaringClass().getName());
+
+        try {
+            return pendingInstance.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                String message = String.format("Asynchronous bean not completed within %d ms! [%s]", getAsyncTimeoutMillis(), beanDescription);
+                log.error(message);
+                throw new AsyncBeanInstantiationException(message, e.getCause());
+            }
+
+            String message = String.format("Asynchronous bean completed exceptionally! [%s]", beanDescription);
+            log.error(message);
+            throw new AsyncBeanInstantiationException(message, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            String message = String.format("Interrupted while waiting for asynchronous bean! [%s]", beanDescription);
+            log.error(message);
+            throw new AsyncBeanInstantiationException(message, e);
+        }
+    }
+
+    private static Object invokeBeanMethod(MethodBean bean, Set<Class<?>> cache) {
+        Method method = bean.getMethod();
+        Parameter[] parameters = method.getParameters();
+        Object[] parameterInstances = validateCollectParametersInstances(parameters, bean, new HashSet<>(cache));
+
+        try {
+            return method.invoke(null, parameterInstances);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            log.error(e.getMessage());
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * @return the maximum time in milliseconds an asynchronous bean may take to complete after its factory method was invoked
+     */
+    private static long getAsyncTimeoutMillis() {
+        return Long.getLong(ASYNC_TIMEOUT_PROPERTY, DEFAULT_ASYNC_TIMEOUT_MILLIS);
+    }
+
+    private static Object[] validateCollectParametersInstances(Parameter[] parameters, Bean owner, Set<Class<?>> cache) {
         List<Object> parameterInstances = new ArrayList<>(Arrays.stream(parameters)
-                .map(parameter -> getElementInstance(parameter, cache))
+                .map(parameter -> getElementInstance(parameter, owner, cache))
                 .toList());
 
         return parameterInstances.toArray();
     }
 
-    private static <O> void injectAnnotatedFields(O object, Class<?> type, Set<Class<?>> cache) {
-        Field[] declaredFields = type.getDeclaredFields();
+    private static <O> void injectAnnotatedFields(O object, Bean owner, Set<Class<?>> cache) {
+        Field[] declaredFields = owner.getType().getDeclaredFields();
         Arrays.stream(declaredFields)
                 .filter(field -> field.isAnnotationPresent(SimpleInject.class))
-                .forEach(field -> injectAnnotatedField(object, field, cache));
+                .forEach(field -> injectAnnotatedField(object, field, owner, cache));
     }
 
-    private static <O> void injectAnnotatedField(O object, Field field, Set<Class<?>> cache) {
+    private static <O> void injectAnnotatedField(O object, Field field, Bean owner, Set<Class<?>> cache) {
         field.setAccessible(true);
         try {
             Object fieldInstance = field.get(object);
             if (fieldInstance == null) {
                 Class<?> parameterType = field.getType();
-                Object innerObject = getElementInstance(field, cache);
+                Object innerObject = getElementInstance(field, owner, cache);
                 field.set(object, parameterType.cast(innerObject));
             }
         } catch (IllegalAccessException e) {
@@ -85,21 +351,20 @@ abstract class BeanService<T extends Bean> {
         }
     }
 
-    private static Object getElementInstance(AnnotatedElement element, Set<Class<?>> cache) {
+    private static Object getElementInstance(AnnotatedElement element, Bean owner, Set<Class<?>> cache) {
         Class<?> type = validateGetAnnotatedElementType(element);
         String identifier = getElementIdentifier(element);
-        Bean bean = ApplicationContext.validateFindBean(type, identifier);
-        Object instance = bean.getInstance();
-        if (instance == null) {
-            instance = createInstance(bean, cache);
-            bean.setInstance(instance);
+        Bean bean = owner.getRegistry().validateFindBean(type, identifier);
+        if (BeanScopes.requiresProxy(owner.getScope(), bean.getScope())) {
+            return BeanScopes.getScopedProxy(bean);
+        }
 
-            if (instance == null) {
-                String identifierMessage = identifier.isBlank() ? "a blank identifier" : String.format("identifier='%s'", identifier);
-                String message = String.format("No bean registered for type: %s and %s !", type.getName(), identifierMessage);
-                log.error(message);
-                throw new MissingBeanException(message);
-            }
+        Object instance = getOrCreateInstance(bean, cache);
+        if (instance == null) {
+            String identifierMessage = identifier.isBlank() ? "a blank identifier" : String.format("identifier='%s'", identifier);
+            String message = String.format("No bean registered for type: %s and %s !", type.getName(), identifierMessage);
+            log.error(message);
+            throw new MissingBeanException(message);
         }
         return instance;
     }
@@ -0,0 +1,162 @@
+package com.plavajs.libs.simpleinject;
+
+import lombok.extern.log4j.Log4j2;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * Watches the class path directories in the development mode and reloads the beans of the created and deleted classes.
+ * <p>
+ * Already loaded classes cannot be redefined by their class loader -> a changed class file of a loaded class only
+ * logs a warning. When the class file is deleted and written again, the beans of the loaded class are registered again.
+ */
+@Log4j2
+final class ClassPathWatcher implements Runnable {
+
+    private static final long DEBOUNCE_MILLIS = 100;
+    private static final String CLASS_FILE_SUFFIX = ".class";
+
+    private final WatchService watchService;
+    private final Set<Path> rootDirectories;
+
+    private ClassPathWatcher(WatchService watchService, Set<Path> rootDirectories) {
+        this.watchService = watchService;
+        this.rootDirectories = rootDirectories;
+    }
+
+    static void start() {
+        Set<Path> rootDirectories = ClassScanner.getClassPathDirectories().stream()
+                .map(File::toPath)
+                .collect(Collectors.toSet());
+
+        ClassPathWatcher watcher;
+        try {
+            watcher = new ClassPathWatcher(FileSystems.getDefault().newWatchService(), rootDirectories);
+            for (Path rootDirectory : rootDirectories) {
+                watcher.registerRecursively(rootDirectory, new HashSet<>());
+            }
+        } catch (IOException e) {
+            log.error(e.getMessage());
+            throw new RuntimeException(e);
+        }
+
+        Thread thread = new Thread(watcher, "simple-inject-class-path-watcher");
+        thread.setDaemon(true);
+        thread.start();
+        if (log.isDebugEnabled()) log.debug("Watching class path directories: {}", rootDirectories);
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Set<Path> createdFiles = new HashSet<>();
+                Set<Path> deletedFiles = new HashSet<>();
+                WatchKey key = watchService.take();
+                while (key != null) {
+                    collectEvents(key, createdFiles, deletedFiles);
+                    key = watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+                }
+                reload(createdFiles, deletedFiles);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            if (log.isDebugEnabled()) log.debug("Class path watcher closed");
+        }
+    }
+
+    private void collectEvents(WatchKey key, Set<Path> createdFiles, Set<Path> deletedFiles) {
+        Path directory = (Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW) {
+                log.warn("Class path watcher lost events in: {}", directory);
+                continue;
+            }
+
+            Path path = directory.resolve((Path) event.context());
+            if (event.kind() == ENTRY_DELETE) {
+                deletedFiles.add(path);
+                createdFiles.remove(path);
+            } else if (Files.isDirectory(path)) {
+                createdFiles.addAll(registerRecursively(path, new HashSet<>()));
+            } else {
+                createdFiles.add(path);
+                deletedFiles.remove(path);
+            }
+        }
+        key.reset();
+    }
+
+    private void reload(Set<Path> createdFiles, Set<Path> deletedFiles) {
+        Set<String> createdClassNames = toClassNames(createdFiles);
+        Set<String> deletedClassNames = toClassNames(deletedFiles);
+        if (createdClassNames.isEmpty() && deletedClassNames.isEmpty()) return;
+
+        createdClassNames.stream()
+                .filter(ClassScanner::isLoaded)
+                .sorted()
+                .forEach(className -> log.warn("Class '{}' changed but it is already loaded -> restart to apply the change", className));
+
+        Set<Class<?>> removedClasses = ClassScanner.removeClasses(deletedClassNames);
+        Set<Class<?>> addedClasses = ClassScanner.addClasses(createdClassNames);
+
+        try {
+            ApplicationContext.reload(addedClasses, removedClasses);
+        } catch (RuntimeException e) {
+            log.error("Reloading beans failed: {}", e.getMessage());
+        }
+    }
+
+    private Set<String> toClassNames(Set<Path> files) {
+        return files.stream()
+                .filter(file -> file.getFileName().toString().endsWith(CLASS_FILE_SUFFIX))
+                .map(this::toClassName)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+    }
+
+    private String toClassName(Path file) {
+        return rootDirectories.stream()
+                .filter(file::startsWith)
+                .findFirst()
+                .map(rootDirectory -> {
+                    String relativePath = rootDirectory.relativize(file).toString();
+                    return relativePath.substring(0, relativePath.length() - CLASS_FILE_SUFFIX.length())
+                            .replace(File.separatorChar, '.');
+                })
+                .orElse(null);
+    }
+
+    /**
+     * @return the files found in the registered directories
+     */
+    private Set<Path> registerRecursively(Path directory, Set<Path> files) {
+        try {
+            Files.walkFileTree(directory, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) throws IOException {
+                    dir.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                    files.add(file);
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            log.warn("Directory '{}' could not be watched: {}", directory, e.getMessage());
+        }
+        return files;
+    }
+}
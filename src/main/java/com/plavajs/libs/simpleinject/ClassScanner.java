@@ -8,17 +8,16 @@ import java.io.*;
 import java.lang.annotation.Annotation;
 import java.net.URL;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 @Log4j2
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 final class ClassScanner {
 
-    private static final Set<Class<?>> allClasses = new HashSet<>();
-
-    static {
-        loadAllClasses();
-    }
+    private static volatile Set<Class<?>> allClasses = Collections.emptySet();
+    private static volatile Map<String, Class<?>> loadedClasses = new ConcurrentHashMap<>();
+    private static volatile long scanNanos;
 
     static Set<Class<?>> findClassesAnnotatedWith(Class<? extends Annotation> annotationClass) {
         return allClasses.stream()
@@ -41,29 +40,110 @@ final class ClassScanner {
                 .collect(Collectors.toSet());
     }
 
-    private static void loadAllClasses() {
-        if (log.isDebugEnabled()) log.debug("Loading all classes");
-        Set<Class<?>> classes = new HashSet<>();
-        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
-        String packageName = "";
+    static long getScanNanos() {
+        return scanNanos;
+    }
+
+    static int getClassCount() {
+        return allClasses.size();
+    }
 
+    /**
+     * Drops the references to all scanned classes once the beans are loaded. Further lookups find no classes.
+     */
+    static void release() {
+        int classCount = allClasses.size();
+        allClasses = Collections.emptySet();
+        loadedClasses = new ConcurrentHashMap<>();
+        if (log.isDebugEnabled()) log.debug("Released {} scanned classes", classCount);
+    }
+
+    /**
+     * @return the root directories of the class path which are scanned for classes
+     */
+    static Set<File> getClassPathDirectories() {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
         Enumeration<URL> resources;
         try {
-            resources = classLoader.getResources(packageName);
+            resources = classLoader.getResources("");
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
 
+        Set<File> directories = new HashSet<>();
         while (resources.hasMoreElements()) {
             URL resourceUrl = resources.nextElement();
             if (resourceUrl.getProtocol().equals("file")) {
-                File directory = new File(resourceUrl.getFile());
-                scanDirectory(directory, packageName, classes);
+                directories.add(new File(resourceUrl.getFile()));
             }
         }
+        return directories;
+    }
+
+    /**
+     * @param className fully qualified name of the class
+     * @return true if the class was loaded by the scanner (also if it was removed since) -> its definition cannot change
+     */
+    static boolean isLoaded(String className) {
+        return loadedClasses.containsKey(className);
+    }
+
+    /**
+     * Adds the classes which are not known to the scanner. A class loaded before (also if it was removed since) is added
+     * with its loaded definition.
+     *
+     * @param classNames fully qualified names of the classes
+     * @return the newly added classes
+     */
+    static Set<Class<?>> addClasses(Set<String> classNames) {
+        Set<Class<?>> addedClasses = new HashSet<>();
+        for (String className : classNames) {
+            Class<?> type = loadedClasses.get(className);
+            if (type != null) {
+                if (allClasses.add(type)) addedClasses.add(type);
+                continue;
+            }
+
+            try {
+                type = Class.forName(className, false, Thread.currentThread().getContextClassLoader());
+            } catch (ClassNotFoundException | LinkageError e) {
+                log.warn("Class '{}' could not be loaded: {}", className, e.getMessage());
+                continue;
+            }
+            loadedClasses.put(type.getName(), type);
+            if (allClasses.add(type)) addedClasses.add(type);
+        }
+        return addedClasses;
+    }
+
+    /**
+     * @param classNames fully qualified names of the classes
+     * @return the classes removed from the scanner (they stay known as loaded)
+     */
+    static Set<Class<?>> removeClasses(Set<String> classNames) {
+        Set<Class<?>> removedClasses = allClasses.stream()
+                .filter(clazz -> classNames.contains(clazz.getName()))
+                .collect(Collectors.toSet());
+
+        allClasses.removeAll(removedClasses);
+        return removedClasses;
+    }
+
+    /**
+     * Loads all classes of the class path directories without initializing them. Replaces the previously scanned classes.
+     */
+    static void scan() {
+        if (log.isDebugEnabled()) log.debug("Loading all classes");
+        long start = System.nanoTime();
+        Set<Class<?>> classes = ConcurrentHashMap.newKeySet();
+        getClassPathDirectories().forEach(directory -> scanDirectory(directory, "", classes));
+        scanNanos = System.nanoTime() - start;
 
         if (log.isDebugEnabled()) log.debug("Loaded {} classes", classes.size());
-        allClasses.addAll(classes);
+        Map<String, Class<?>> classesByName = new ConcurrentHashMap<>();
+        classes.forEach(clazz -> classesByName.put(clazz.getName(), clazz));
+        loadedClasses = classesByName;
+        allClasses = classes;
     }
 
     private static void scanDirectory(File directory, String packageName, Set<Class<?>> classes) {
@@ -77,7 +157,8 @@ final class ClassScanner {
             } else if (file.getName().endsWith(".class")) {
                 Class<?> type;
                 try {
-                    type = Class.forName(packageName + "." + file.getName().substring(0, file.getName().lastIndexOf('.')));
+                    type = Class.forName(packageName + "." + file.getName().substring(0, file.getName().lastIndexOf('.')), false,
+                            Thread.currentThread().getContextClassLoader());
                 } catch (ClassNotFoundException e) {
                     throw new RuntimeException(e);
                 }
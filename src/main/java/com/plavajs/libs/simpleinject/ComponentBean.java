@@ -2,6 +2,7 @@ package com.plavajs.libs.simpleinject;
 
 import com.plavajs.libs.simpleinject.annotation.SimpleBean;
 import com.plavajs.libs.simpleinject.annotation.SimpleComponent;
+import com.plavajs.libs.simpleinject.annotation.SimpleScope;
 import lombok.Getter;
 
 import java.lang.reflect.Constructor;
@@ -12,8 +13,21 @@ import java.util.List;
 final class ComponentBean extends Bean {
 
     ComponentBean(Class<?> type) {
+        this(type, "");
+    }
+
+    /**
+     * @param identifier the identifier of the bean, if blank -> the identifier is taken from the annotations
+     */
+    ComponentBean(Class<?> type, String identifier) {
         super(type);
-        setIdentifier(createIdentifier());
+        setIdentifier(identifier.isBlank() ? createIdentifier() : identifier);
+        setScope(type.getAnnotation(SimpleScope.class));
+    }
+
+    @Override
+    Class<?> getDeclaringClass() {
+        return getType();
     }
 
     private String createIdentifier() {
@@ -25,7 +39,8 @@ final class ComponentBean extends Bean {
         String identifier = "";
         if (!annotatedConstructors.isEmpty()) identifier = annotatedConstructors.get(0).getAnnotation(SimpleBean.class).identifier();
 
-        return identifier.isBlank() ? getType().getAnnotation(SimpleComponent.class).identifier() : identifier;
+        SimpleComponent component = getType().getAnnotation(SimpleComponent.class);
+        return identifier.isBlank() && component != null ? component.identifier() : identifier;
     }
 
 }
@@ -17,6 +17,8 @@ import java.util.stream.Collectors;
 @Log4j2
 final class ComponentBeanService extends BeanService<ComponentBean> {
 
+    private Map<String, Boolean> scannedPackages;
+
     @Override
     void loadBeans() {
         if (log.isDebugEnabled()) log.debug("Loading 'ComponentBeans'");
@@ -30,10 +32,10 @@ final class ComponentBeanService extends BeanService<ComponentBean> {
         }
 
         Class<?> componentScanAnnotatedClass = new ArrayList<>(annotatedClasses).get(0);
-        loadClassesInPackages(componentScanAnnotatedClass).stream()
-                .filter(clazz -> clazz.isAnnotationPresent(SimpleComponent.class))
-                .map(ComponentBean::new)
-                .forEach(bean -> beans.add(bean));
+        scannedPackages = resolvePackagesToScan(componentScanAnnotatedClass);
+        addBeans(scannedPackages.entrySet().stream()
+                .flatMap(entry -> ClassScanner.findClassesInPackage(entry.getKey(), entry.getValue()).stream())
+                .collect(Collectors.toSet()));
 
         if (log.isDebugEnabled()) {
             String message = beans.isEmpty() ? "No 'SimpleComponents' loaded" :
@@ -44,6 +46,34 @@ final class ComponentBeanService extends BeanService<ComponentBean> {
         }
     }
 
+    @Override
+    Set<ComponentBean> addBeans(Set<Class<?>> classes) {
+        if (scannedPackages == null) return Set.of();
+
+        return registerBeans(classes.stream()
+                .filter(clazz -> clazz.isAnnotationPresent(SimpleComponent.class))
+                .filter(this::isInScannedPackages)
+                .collect(Collectors.toMap(clazz -> clazz, clazz -> "")));
+    }
+
+    /**
+     * @param identifiedClasses the component classes with their identifiers (blank -> taken from the annotations)
+     * @return the newly registered beans
+     */
+    Set<ComponentBean> registerBeans(Map<Class<?>, String> identifiedClasses) {
+        Set<ComponentBean> beans = identifiedClasses.entrySet().stream()
+                .filter(entry -> BeanConditions.matches(entry.getKey()))
+                .map(entry -> new ComponentBean(entry.getKey(), entry.getValue()))
+                .collect(Collectors.toSet());
+
+        this.beans.addAll(beans);
+        return beans;
+    }
+
+    void releaseScannedPackages() {
+        scannedPackages = null;
+    }
+
     static Constructor<?> validateGetComponentBeanConstructor(Class<?> type) {
         Constructor<?>[] allConstructors = type.getDeclaredConstructors();
         if (allConstructors.length == 0) {
@@ -72,7 +102,13 @@ final class ComponentBeanService extends BeanService<ComponentBean> {
         return beanConstructors.isEmpty() ? allConstructors[0] : beanConstructors.get(0);
     }
 
-    private static Set<Class<?>> loadClassesInPackages(Class<?> scanAnnotatedClass) {
+    private boolean isInScannedPackages(Class<?> clazz) {
+        return scannedPackages.entrySet().stream()
+                .anyMatch(entry -> entry.getValue() ? clazz.getPackageName().startsWith(entry.getKey()) :
+                        clazz.getPackageName().equals(entry.getKey()));
+    }
+
+    private static Map<String, Boolean> resolvePackagesToScan(Class<?> scanAnnotatedClass) {
         List<SimpleComponentScan> componentScans;
         SimpleComponentScans wrappedComponentScans = scanAnnotatedClass.getAnnotation(SimpleComponentScans.class);
         if (wrappedComponentScans != null) {
@@ -88,7 +124,7 @@ final class ComponentBeanService extends BeanService<ComponentBean> {
                     "Empty package name found to scan recursively. Scanning for 'SimpleComponents' in all root packages recursively: ['{}']",
                     String.join("', '", rootPackages));
 
-            return getClassesForDistinctPackages(rootPackages, new HashSet<>());
+            return mapDistinctPackages(rootPackages, new HashSet<>());
         }
 
         Set<String> distinctSimplePackages = resolveDistinctSimplePackages(componentScans, distinctRecursivePackages);
@@ -114,7 +150,7 @@ final class ComponentBeanService extends BeanService<ComponentBean> {
             log.debug("Scanning for 'SimpleComponents' {}{}{}", recursivelyMessage, conjunction, simpleMessage);
         }
 
-        return getClassesForDistinctPackages(distinctRecursivePackages, distinctSimplePackages);
+        return mapDistinctPackages(distinctRecursivePackages, distinctSimplePackages);
     }
 
     private static Set<String> resolveDistinctRecursivePackages(List<SimpleComponentScan> componentScans) {
@@ -145,16 +181,14 @@ final class ComponentBeanService extends BeanService<ComponentBean> {
                 .collect(Collectors.toSet());
     }
 
-    private static Set<Class<?>> getClassesForDistinctPackages(Set<String> distinctRecursivePackages, Set<String> distinctSimplePackages) {
+    private static Map<String, Boolean> mapDistinctPackages(Set<String> distinctRecursivePackages, Set<String> distinctSimplePackages) {
         Map<String, Boolean> packagesMap = distinctRecursivePackages.stream()
                 .collect(Collectors.toMap(packageName -> packageName, packageName -> true));
 
         packagesMap.putAll(distinctSimplePackages.stream()
                 .collect(Collectors.toMap(packageName -> packageName, packageName -> false)));
 
-        return packagesMap.entrySet().stream()
-                .flatMap(entry -> ClassScanner.findClassesInPackage(entry.getKey(), entry.getValue()).stream())
-                .collect(Collectors.toSet());
+        return packagesMap;
     }
 
     private static void validateSingleComponentScanClass(Set<Class<?>> annotatedClasses) {
@@ -0,0 +1,16 @@
+package com.plavajs.libs.simpleinject;
+
+/**
+ * Snapshot of what is retained by the {@link ApplicationContext}.
+ *
+ * @param beans            number of registered beans
+ * @param instances        number of beans holding a created singleton instance
+ * @param pendingInstances number of asynchronous beans holding a future which was not awaited yet
+ * @param scopedProxies    number of proxies created for the scoped beans injected into longer-lived beans
+ * @param scopeSlots       number of slots of the instance array the container holds in every open request scope and
+ *                         in every thread with its 'THREAD' scoped instances
+ * @param scannedClasses   number of scanned classes still referenced (0 once released after the start)
+ */
+public record ContainerFootprint(int beans, int instances, int pendingInstances, int scopedProxies, int scopeSlots,
+                                 int scannedClasses) {
+}
@@ -0,0 +1,157 @@
+package com.plavajs.libs.simpleinject;
+
+import lombok.extern.log4j.Log4j2;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Collects the runtime statistics of the container. The counters are {@link LongAdder}s, so recording a lookup does
+ * not contend between threads.
+ */
+@Log4j2
+final class ContainerStatistics implements ContainerStatisticsMXBean {
+
+    static final String OBJECT_NAME = "com.plavajs.libs.simpleinject:type=ApplicationContext";
+
+    private static final int HISTOGRAM_BUCKETS = 32;
+    private static final SimpleInjectMetrics NO_METRICS = new SimpleInjectMetrics() {
+    };
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder lookupHits = new LongAdder();
+    private final LongAdder creations = new LongAdder();
+    private final Map<String, LongAdder[]> creationHistograms = new ConcurrentHashMap<>();
+    private final IntSupplier liveSingletonCounter;
+
+    private volatile SimpleInjectMetrics metrics = NO_METRICS;
+    private volatile long scanNanos;
+    private volatile long bootNanos;
+
+    ContainerStatistics(IntSupplier liveSingletonCounter) {
+        this.liveSingletonCounter = liveSingletonCounter;
+    }
+
+    void register() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+        } catch (JMException e) {
+            log.warn("Statistics MBean '{}' not registered: {}", OBJECT_NAME, e.getMessage());
+        }
+    }
+
+    void setMetrics(SimpleInjectMetrics metrics) {
+        this.metrics = metrics == null ? NO_METRICS : metrics;
+    }
+
+    void setScanNanos(long scanNanos) {
+        this.scanNanos = scanNanos;
+    }
+
+    void setBootNanos(long bootNanos) {
+        this.bootNanos = bootNanos;
+    }
+
+    void recordLookup(Bean bean, boolean hit) {
+        lookups.increment();
+        if (hit) lookupHits.increment();
+        metrics.recordLookup(bean.getType(), bean.getIdentifier(), hit);
+    }
+
+    void recordCreation(Bean bean, long durationNanos) {
+        creations.increment();
+        String key = bean.getIdentifier().isBlank() ? bean.getType().getName() : bean.getType().getName() + ":" + bean.getIdentifier();
+        LongAdder[] histogram = creationHistograms.computeIfAbsent(key, k -> createHistogram());
+        histogram[bucketIndex(durationNanos)].increment();
+        metrics.recordCreation(bean.getType(), bean.getIdentifier(), durationNanos);
+    }
+
+    @Override
+    public long getLookupCount() {
+        return lookups.sum();
+    }
+
+    @Override
+    public long getLookupHitCount() {
+        return lookupHits.sum();
+    }
+
+    @Override
+    public long getLookupMissCount() {
+        return Math.max(0, getLookupCount() - getLookupHitCount());
+    }
+
+    @Override
+    public double getLookupHitRatio() {
+        long lookupCount = getLookupCount();
+        return lookupCount == 0 ? 0 : (double) getLookupHitCount() / lookupCount;
+    }
+
+    @Override
+    public long getCreationCount() {
+        return creations.sum();
+    }
+
+    @Override
+    public Map<String, Long> getCreationCounts() {
+        return creationHistograms.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> sum(entry.getValue())));
+    }
+
+    @Override
+    public Map<String, long[]> getCreationLatencyHistograms() {
+        return creationHistograms.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> snapshot(entry.getValue())));
+    }
+
+    @Override
+    public int getLiveSingletonCount() {
+        return liveSingletonCounter.getAsInt();
+    }
+
+    @Override
+    public long getScanMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(scanNanos);
+    }
+
+    @Override
+    public long getBootMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(bootNanos);
+    }
+
+    private static LongAdder[] createHistogram() {
+        LongAdder[] histogram = new LongAdder[HISTOGRAM_BUCKETS];
+        for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+            histogram[i] = new LongAdder();
+        }
+        return histogram;
+    }
+
+    private static int bucketIndex(long durationNanos) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(durationNanos);
+        return Math.min(HISTOGRAM_BUCKETS - 1, Long.SIZE - Long.numberOfLeadingZeros(micros));
+    }
+
+    private static long sum(LongAdder[] histogram) {
+        long sum = 0;
+        for (LongAdder bucket : histogram) {
+            sum += bucket.sum();
+        }
+        return sum;
+    }
+
+    private static long[] snapshot(LongAdder[] histogram) {
+        long[] snapshot = new long[histogram.length];
+        for (int i = 0; i < histogram.length; i++) {
+            snapshot[i] = histogram[i].sum();
+        }
+        return snapshot;
+    }
+}
@@ -0,0 +1,37 @@
+package com.plavajs.libs.simpleinject;
+
+import java.util.Map;
+
+/**
+ * Runtime statistics of the {@link ApplicationContext} registered in the platform MBean server as
+ * {@value ContainerStatistics#OBJECT_NAME}.
+ */
+public interface ContainerStatisticsMXBean {
+
+    long getLookupCount();
+
+    long getLookupHitCount();
+
+    long getLookupMissCount();
+
+    double getLookupHitRatio();
+
+    long getCreationCount();
+
+    /**
+     * @return number of created instances by the bean ('type' or 'type:identifier')
+     */
+    Map<String, Long> getCreationCounts();
+
+    /**
+     * @return creation latency histograms by the bean ('type' or 'type:identifier'), bucket 0 counts creations under
+     * 1 µs, bucket i counts creations from 2^(i-1) µs to 2^i µs, the last bucket counts all longer creations
+     */
+    Map<String, long[]> getCreationLatencyHistograms();
+
+    int getLiveSingletonCount();
+
+    long getScanMillis();
+
+    long getBootMillis();
+}
@@ -1,18 +1,53 @@
 package com.plavajs.libs.simpleinject;
 
 import com.plavajs.libs.simpleinject.annotation.SimpleBean;
+import com.plavajs.libs.simpleinject.annotation.SimpleScope;
 import lombok.Getter;
 
 import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Getter
 final class MethodBean extends Bean {
 
     private final Method method;
+    private final boolean async;
+
+    /**
+     * Completes with the instance of the asynchronous bean once its factory method was invoked, until the instance is set.
+     */
+    private final AtomicReference<CompletableFuture<Object>> pendingInstance = new AtomicReference<>();
 
     MethodBean(Method method) {
-        super(method.getReturnType());
+        super(isAsync(method) ? resolveAsyncType(method) : method.getReturnType());
         this.method = method;
+        this.async = isAsync(method);
         setIdentifier(method.getAnnotation(SimpleBean.class).identifier());
+        setScope(method.getAnnotation(SimpleScope.class));
+    }
+
+    @Override
+    Class<?> getDeclaringClass() {
+        return method.getDeclaringClass();
+    }
+
+    static boolean isAsync(Method method) {
+        return CompletableFuture.class.equals(method.getReturnType());
+    }
+
+    /**
+     * @param method the 'SimpleBean' method returning {@link CompletableFuture}
+     * @return the type the future completes with or {@code null} if it cannot be resolved
+     */
+    static Class<?> resolveAsyncType(Method method) {
+        if (!(method.getGenericReturnType() instanceof ParameterizedType futureType)) return null;
+
+        Type argument = futureType.getActualTypeArguments()[0];
+        if (argument instanceof Class<?> clazz) return clazz;
+        if (argument instanceof ParameterizedType parameterizedType) return (Class<?>) parameterizedType.getRawType();
+        return null;
     }
 }
@@ -2,12 +2,15 @@ package com.plavajs.libs.simpleinject;
 
 import com.plavajs.libs.simpleinject.annotation.SimpleBean;
 import com.plavajs.libs.simpleinject.annotation.SimpleConfiguration;
+import com.plavajs.libs.simpleinject.annotation.SimpleScope;
+import com.plavajs.libs.simpleinject.annotation.SimpleScopeType;
 import com.plavajs.libs.simpleinject.exception.*;
 import lombok.extern.log4j.Log4j2;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 @Log4j2
 final class MethodBeanService extends BeanService<MethodBean> {
@@ -22,28 +25,50 @@ final class MethodBeanService extends BeanService<MethodBean> {
             return;
         }
 
+        Set<MethodBean> beans = addBeans(configurationClasses);
+
+        if (log.isDebugEnabled()) {
+            String message = beans.isEmpty() ? "No 'SimpleBeans' loaded" : String.format("Loaded %d 'SimpleBeans': %s", beans.size(),
+                    beans.stream().map(bean -> {
+                        String identifierMessage = bean.getIdentifier().isBlank() ? "" : String.format("'%s' ", bean.getIdentifier());
+                        return String.format("%s: %s%s()", bean.getType().getSimpleName(), identifierMessage, bean.getMethod().getName());
+                    }).sorted().toList());
+
+            log.debug(message);
+        }
+    }
+
+    @Override
+    Set<MethodBean> addBeans(Set<Class<?>> classes) {
+        Set<Class<?>> configurationClasses = new LinkedHashSet<>();
+        classes.stream()
+                .filter(clazz -> clazz.isAnnotationPresent(SimpleConfiguration.class))
+                .forEach(configurationClasses::add);
+
+        return registerBeans(configurationClasses);
+    }
+
+    /**
+     * @param configurationClasses the classes declaring the 'SimpleBean' methods, they do not have to be
+     *                             'SimpleConfiguration' annotated
+     * @return the newly registered beans
+     */
+    Set<MethodBean> registerBeans(Set<Class<?>> configurationClasses) {
         Set<MethodBean> beans = new HashSet<>();
         configurationClasses.stream()
+                .filter(BeanConditions::matches)
                 .peek(this::validateConfigurationClass)
                 .flatMap(clazz -> Arrays.stream(clazz.getDeclaredMethods()))
                 .filter(method -> method.isAnnotationPresent(SimpleBean.class))
+                .filter(BeanConditions::matches)
                 .peek(this::validateBeanMethod)
                 .map(MethodBean::new)
-                .peek(this::validateDuplicitBean)
                 .forEach(bean -> {
                     this.beans.add(bean);
                     beans.add(bean);
                 });
 
-        if (log.isDebugEnabled()) {
-            String message = beans.isEmpty() ? "No 'SimpleBeans' loaded" : String.format("Loaded %d 'SimpleBeans': %s", beans.size(),
-                    beans.stream().map(bean -> {
-                        String identifierMessage = bean.getIdentifier().isBlank() ? "" : String.format("'%s' ", bean.getIdentifier());
-                        return String.format("%s: %s%s()", bean.getType().getSimpleName(), identifierMessage, bean.getMethod().getName());
-                    }).sorted().toList());
-
-            log.debug(message);
-        }
+        return beans;
     }
 
     private void validateConfigurationClass(Class<?> clazz) {
@@ -66,26 +91,24 @@ final class MethodBeanService extends BeanService<MethodBean> {
             log.error(message);
             throw new ConfigBeanMethodNotPublicStaticException(message);
         }
-    }
 
-    private void validateDuplicitBean(MethodBean bean) {
-        String identifier = bean.getIdentifier();
-        beans.forEach(existingBean -> {
-            if (existingBean.equals(bean)) {
-                String identifierMessage = identifier.isBlank() ? "with empty identifiers"
-                        : String.format("with identical identifiers (identifier='%s')", identifier);
-
-                String message = String.format("Duplicit beans %s. For type: %s, method: '%s()' in: %s and method: '%s()' in: %s",
-                        identifierMessage,
-                        bean.getType().getName(),
-                        bean.getMethod().getName(),
-                        bean.getMethod().getDeclaringClass().getName(),
-                        existingBean.getMethod().getName(),
-                        existingBean.getMethod().getDeclaringClass().getName());
-
-                log.error("Duplicit 'SimpleBean' methods found! {}", message);
-                throw new DuplicitBeansException(message);
-            }
-        });
+        if (MethodBean.isAsync(method) && MethodBean.resolveAsyncType(method) == null) {
+            String message = String.format("'SimpleBean' annotated method returning '%s' must declare the bean type as its type argument! ['%s()' in: %s]",
+                    CompletableFuture.class.getSimpleName(),
+                    method.getName(),
+                    method.getDeclaringClass().getName());
+            log.error(message);
+            throw new UnresolvableBeanTypeException(message);
+        }
+
+        SimpleScope scope = method.getAnnotation(SimpleScope.class);
+        if (MethodBean.isAsync(method) && scope != null && scope.value() != SimpleScopeType.SINGLETON) {
+            String message = String.format("'SimpleBean' annotated method returning '%s' must be 'SINGLETON' scoped! ['%s()' in: %s]",
+                    CompletableFuture.class.getSimpleName(),
+                    method.getName(),
+                    method.getDeclaringClass().getName());
+            log.error(message);
+            throw new UnsupportedScopeException(message);
+        }
     }
 }
@@ -0,0 +1,61 @@
+package com.plavajs.libs.simpleinject;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Request scope opened on the current thread by {@link ApplicationContext#openRequestScope()}. The instances of the
+ * 'REQUEST' scoped beans live until the scope is closed.
+ * <pre>{@code
+ * try (RequestScope scope = ApplicationContext.openRequestScope()) {
+ *     handle(request);
+ * }
+ * }</pre>
+ */
+public final class RequestScope implements AutoCloseable {
+
+    private static final Object[] NO_INSTANCES = new Object[0];
+
+    private final RequestScope parent;
+    private BeanRegistry registry;
+    private Object[] instances = NO_INSTANCES;
+    private Map<BeanRegistry, Object[]> otherRegistriesInstances;
+
+    RequestScope(RequestScope parent) {
+        this.parent = parent;
+    }
+
+    RequestScope getParent() {
+        return parent;
+    }
+
+    /**
+     * @param beanRegistry   the registry of the requested bean
+     * @param requiredLength the minimal length of the instance array
+     * @return the instances of the beans of the registry, the first used registry needs no lookup
+     */
+    Object[] getInstances(BeanRegistry beanRegistry, int requiredLength) {
+        if (registry == null) registry = beanRegistry;
+        if (registry == beanRegistry) {
+            if (instances.length < requiredLength) instances = Arrays.copyOf(instances, beanRegistry.getScopeSlotCount());
+            return instances;
+        }
+
+        if (otherRegistriesInstances == null) otherRegistriesInstances = new IdentityHashMap<>();
+        Object[] registryInstances = otherRegistriesInstances.getOrDefault(beanRegistry, NO_INSTANCES);
+        if (registryInstances.length < requiredLength) {
+            registryInstances = Arrays.copyOf(registryInstances, beanRegistry.getScopeSlotCount());
+            otherRegistriesInstances.put(beanRegistry, registryInstances);
+        }
+        return registryInstances;
+    }
+
+    @Override
+    public void close() {
+        BeanScopes.closeRequestScope(this);
+        registry = null;
+        instances = NO_INSTANCES;
+        otherRegistriesInstances = null;
+    }
+}
@@ -0,0 +1,181 @@
+package com.plavajs.libs.simpleinject;
+
+import com.plavajs.libs.simpleinject.exception.DuplicitBeansException;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Container with explicitly registered beans. Unlike the {@link ApplicationContext} it does not scan the class path,
+ * the beans are validated and resolved by the same rules.
+ * <pre>{@code
+ * SimpleContext context = SimpleContext.builder()
+ *         .component(MyComponent.class)
+ *         .configuration(MyConfiguration.class)
+ *         .bean(Clock.class, Clock::systemUTC)
+ *         .build();
+ * }</pre>
+ */
+@Log4j2
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class SimpleContext {
+
+    private final BeanRegistry registry;
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @param type       the type you want to return the instance of
+     * @param identifier the unique identifier of the bean you want to use for instantiation
+     * @return instance of the specified type
+     */
+    public <T> T getInstance(Class<T> type, String identifier) {
+        return registry.getInstance(type, identifier);
+    }
+
+    /**
+     * @param type the type you want to return the instance of
+     * @return instance of the specified type
+     */
+    public <T> T getInstance(Class<T> type) {
+        return getInstance(type, "");
+    }
+
+    /**
+     * @param type       the type you want to return the handle of
+     * @param identifier the unique identifier of the bean
+     * @return handle returning the instance of the bean without looking the bean up again
+     */
+    public <T> BeanHandle<T> handle(Class<T> type, String identifier) {
+        return registry.handle(type, identifier);
+    }
+
+    /**
+     * @param type the type you want to return the handle of
+     * @return handle returning the instance of the bean without looking the bean up again
+     */
+    public <T> BeanHandle<T> handle(Class<T> type) {
+        return handle(type, "");
+    }
+
+    /**
+     * Opens a request scope on the current thread, shared with the {@link ApplicationContext} and the other contexts.
+     *
+     * @return the opened scope to be closed at the end of the request
+     */
+    public RequestScope openRequestScope() {
+        return BeanScopes.openRequestScope();
+    }
+
+    /**
+     * Drops the instances of the 'THREAD' scoped beans of this context created on the current thread.
+     */
+    public void closeThreadScope() {
+        registry.closeThreadScope();
+    }
+
+    /**
+     * @param metrics the receiver of the lookup and creation statistics, null to remove it
+     */
+    public void setMetrics(SimpleInjectMetrics metrics) {
+        registry.getStatistics().setMetrics(metrics);
+    }
+
+    /**
+     * @return the memory footprint currently retained by the container
+     */
+    public ContainerFootprint getFootprint() {
+        return registry.getFootprint(0);
+    }
+
+    public static final class Builder {
+
+        private final Map<Class<?>, String> componentClasses = new LinkedHashMap<>();
+        private final Set<Class<?>> configurationClasses = new LinkedHashSet<>();
+        private final Set<SupplierBean> supplierBeans = new LinkedHashSet<>();
+        private boolean eagerInstances;
+
+        private Builder() {
+        }
+
+        /**
+         * @param type the component class, its identifier is taken from its annotations if present
+         */
+        public Builder component(Class<?> type) {
+            return component(type, "");
+        }
+
+        /**
+         * @param type       the component class, it does not have to be 'SimpleComponent' annotated
+         * @param identifier the unique identifier of the bean
+         */
+        public Builder component(Class<?> type, String identifier) {
+            componentClasses.put(type, identifier);
+            return this;
+        }
+
+        /**
+         * @param type the class whose 'SimpleBean' methods are registered, it does not have to be 'SimpleConfiguration'
+         *             annotated
+         */
+        public Builder configuration(Class<?> type) {
+            configurationClasses.add(type);
+            return this;
+        }
+
+        public <T> Builder bean(Class<T> type, Supplier<? extends T> supplier) {
+            return bean(type, "", supplier);
+        }
+
+        /**
+         * @param type       the type of the bean
+         * @param identifier the unique identifier of the bean
+         * @param supplier   creates the instance of the bean on its first request
+         */
+        public <T> Builder bean(Class<T> type, String identifier, Supplier<? extends T> supplier) {
+            SupplierBean bean = new SupplierBean(type, identifier, supplier);
+            if (supplierBeans.stream().anyMatch(bean::equals)) {
+                String identifierMessage = identifier.isBlank() ? "with empty identifiers"
+                        : String.format("with identical identifiers (identifier='%s')", identifier);
+                String message = String.format("Duplicit supplier beans %s. For type: %s", identifierMessage, type.getName());
+                log.error(message);
+                throw new DuplicitBeansException(message);
+            }
+
+            supplierBeans.add(bean);
+            return this;
+        }
+
+        /**
+         * Creates the instances of all beans when the context is built.
+         */
+        public Builder eagerInstances() {
+            eagerInstances = true;
+            return this;
+        }
+
+        public SimpleContext build() {
+            MethodBeanService methodBeanService = new MethodBeanService();
+            methodBeanService.registerBeans(configurationClasses);
+            ComponentBeanService componentBeanService = new ComponentBeanService();
+            componentBeanService.registerBeans(componentClasses);
+
+            Set<SupplierBean> beans = new LinkedHashSet<>();
+            supplierBeans.forEach(bean -> beans.add(new SupplierBean(bean.getType(), bean.getIdentifier(), bean.getSupplier())));
+
+            BeanRegistry registry = new BeanRegistry(methodBeanService.getBeans(), componentBeanService.getBeans(), beans);
+            BeanService.startAsyncInstances(registry.getMethodBeans());
+            if (eagerInstances) {
+                registry.setupInstances();
+            }
+
+            if (log.isDebugEnabled()) log.debug("Built context with {} beans", registry.findAllBeans().size());
+            return new SimpleContext(registry);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.plavajs.libs.simpleinject;
+
+/**
+ * Receives the runtime statistics of the {@link ApplicationContext}, registered by
+ * {@link ApplicationContext#setMetrics(SimpleInjectMetrics)}. The methods are called on the lookup path, so they
+ * should not block.
+ */
+public interface SimpleInjectMetrics {
+
+    /**
+     * @param type       the type of the requested bean
+     * @param identifier the identifier of the requested bean
+     * @param hit        true if the instance already existed
+     */
+    default void recordLookup(Class<?> type, String identifier, boolean hit) {
+    }
+
+    /**
+     * @param type          the type of the created bean
+     * @param identifier    the identifier of the created bean
+     * @param durationNanos the duration of the creation including the creation of its dependencies
+     */
+    default void recordCreation(Class<?> type, String identifier, long durationNanos) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.plavajs.libs.simpleinject;
+
+import lombok.Getter;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Creation of a singleton instance running on its owner thread. The other threads requesting the bean wait for its
+ * instance instead of locking the bean, so no lock is held while the dependencies of the bean are created.
+ */
+@Getter
+final class SingletonCreation {
+
+    private final Thread owner = Thread.currentThread();
+    private final CompletableFuture<Object> instance = new CompletableFuture<>();
+}
@@ -0,0 +1,22 @@
+package com.plavajs.libs.simpleinject;
+
+import lombok.Getter;
+
+import java.util.function.Supplier;
+
+@Getter
+final class SupplierBean extends Bean {
+
+    private final Supplier<?> supplier;
+
+    SupplierBean(Class<?> type, String identifier, Supplier<?> supplier) {
+        super(type);
+        this.supplier = supplier;
+        setIdentifier(identifier);
+    }
+
+    @Override
+    Class<?> getDeclaringClass() {
+        return getType();
+    }
+}
@@ -0,0 +1,13 @@
+package com.plavajs.libs.simpleinject.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface SimpleConditionalOnBean {
+    Class<?> value();
+    String identifier() default "";
+}
@@ -0,0 +1,7 @@
+package com.plavajs.libs.simpleinject.annotation;
+
+public enum SimpleScopeType {
+    SINGLETON,
+    THREAD,
+    REQUEST
+}
@@ -0,0 +1,11 @@
+package com.plavajs.libs.simpleinject.exception;
+
+public class AsyncBeanInstantiationException extends RuntimeException {
+    public AsyncBeanInstantiationException(String message) {
+        super(message);
+    }
+
+    public AsyncBeanInstantiationException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,7 @@
+package com.plavajs.libs.simpleinject.exception;
+
+public class ScopeNotActiveException extends RuntimeException {
+    public ScopeNotActiveException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.plavajs.libs.simpleinject.exception;
+
+public class UnresolvableBeanTypeException extends RuntimeException {
+    public UnresolvableBeanTypeException(String message) {
+        super(message);
+    }
+}
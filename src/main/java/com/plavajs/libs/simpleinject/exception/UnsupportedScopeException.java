@@ -0,0 +1,7 @@
+package com.plavajs.libs.simpleinject.exception;
+
+public class UnsupportedScopeException extends RuntimeException {
+    public UnsupportedScopeException(String message) {
+        super(message);
+    }
+}